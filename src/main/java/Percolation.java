@@ -22,6 +22,59 @@ public class Percolation {
      */
     int numOpenSites;
 
+    /**
+     * Sites in this grid which are full, i.e. connected to the top row through open sites. Tracked separately from {@link #uf} since
+     * the virtual bottom site would otherwise let sites connected to the bottom row appear full once this grid percolates
+     */
+    boolean [][] full;
+
+    /**
+     * Sites which became full during the current open or batch of opens, in the order they became full. Doubles as the queue of sites
+     * yet to be visited while filling sites; sized to hold every site in this grid since a site becomes full only once
+     */
+    int [] newlyFull;
+
+    /**
+     * Number of sites in {@link #newlyFull}
+     */
+    int numNewlyFull;
+
+    /**
+     * Are listeners being notified at present? Opening sites from within a listener is rejected while this is set
+     */
+    boolean notifying;
+
+    /**
+     * Has this grid percolated yet? Ensures {@link Listener#percolated()} is fired exactly once
+     */
+    boolean percolated;
+
+    /**
+     * Listeners to be notified of sites becoming full and of this grid percolating
+     */
+    java.util.List<Listener> listeners = new java.util.ArrayList<Listener>();
+
+    /**
+     * Callbacks fired as this grid's percolation model evolves, saving callers from polling {@link Percolation#percolates()} or
+     * {@link Percolation#isFull(int, int)} after every site opened. Callbacks are fired once the open, or whole batch of opens, that
+     * triggered them is complete, so the grid is in a consistent state by then. Callbacks may query the grid, but must not open sites in it;
+     * {@link Percolation#open(int, int)} and {@link Percolation#openAll(int[], int[])} throw {@link IllegalStateException} when they do
+     */
+    public interface Listener {
+
+        /**
+         * Fired exactly once, when the grid first percolates
+         */
+        default void percolated() {}
+
+        /**
+         * Fired exactly once per site, when that site becomes full
+         * @param row {@code int} value representing the row index of the now-full site in the grid
+         * @param col {@code int} value representing the column index of the now-full site in the grid
+         */
+        default void siteFull(int row, int col) {}
+    }
+
     /**
      * Initialize this grid such that all its sites are blocked to ensure it begins without any ability to percolate. Also
      * initialize the data type to hold future connections across open sites as the percolation model of this grid evolves.
@@ -36,14 +89,40 @@ public class Percolation {
 
         // initialize n-by-n grid to be fully blocked
         site = new int[n][n];
+        full = new boolean[n][n];
+        newlyFull = new int[n*n];
         for (int i = 0; i < n; i++)
             for (int j = 0; j < n;  j++)
                 site [i][j] = 0;
         
-        // use a union-find data type to accommodate all sites from the grid should they be opened up in future
-        uf = new WeightedQuickUnionUF(n^2);
+        // use a union-find data type to accommodate all sites from the grid should they be opened up in future, along with
+        // a virtual top site connected to every open top row site and a virtual bottom site connected to every open bottom row site
+        uf = new WeightedQuickUnionUF(n*n + 2);
         numOpenSites = 0;
     }
+
+    /**
+     * Register a listener to be notified of sites becoming full and of this grid percolating
+     * @param listener {@link Listener} to be notified
+     */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Index of site ({@code row}, {@code col}) in {@link #uf}
+     */
+    private int ufIndex (int row, int col) {
+        return row * site.length + col;
+    }
+
+    private int virtualTop () {
+        return site.length * site.length;
+    }
+
+    private int virtualBottom () {
+        return site.length * site.length + 1;
+    }
     
     /**
      * Is current index point {@code ix} invalid , or outside the acceptable range [0,n) ?
@@ -59,36 +138,158 @@ public class Percolation {
      * <li>1. Set the site's value in this grid to be {@code 1}</li>
      * <li>2. Connect this now-open site to any neighboring open sites. A neighboring open site is any 
      * open site found to the top or bottom or left or right, sides of this site.</li>
-     * Connections across open sites is maintained using the {@link WeightedQuickUnionUF} data type
+     * Connections across open sites is maintained using the {@link WeightedQuickUnionUF} data type. Registered listeners
+     * are notified of any sites this makes full, and of this grid percolating.
      * @param row {@code int} value representing the row index of the current site in the grid
      * @param col {@code int} value representing the column index of the current site in the grid 
      * @throws IndexOutOfBoundsException when either (or both) of {@code row} and {@code col} is (or are) 
      * outside the acceptable range of [0,n)
+     * @throws IllegalStateException when invoked from within a {@link Listener} callback
      */
     public void open(int row, int col) {
         
+        // opening sites while listeners are being notified would change the grid underneath those yet to be notified
+        if (notifying)
+            throw new java.lang.IllegalStateException ("Sites must not be opened from within a listener callback");
+
         // invalid index points are unacceptable
-        if (isInvalid(row) || isInvalid (col))
+        else if (isInvalid(row) || isInvalid (col))
             throw new java.lang.IndexOutOfBoundsException ("Input index point(s) must be within the acceptable range of [0,n)");
         
-        // open site (row, col) if it is not open already
-        // once opened, connect to neighboring open sites, if any
-        else if (site [row][col] == 0) {
-            site [row][col] = 1;
-            
-            // TODO Avoid going out of bounds either ways, when seeking array values
-            
-            if (isOpen(row-1,col)) // top-neighbor
-                uf.union(site[row][col], site[row-1][col]);
-            if (isOpen(row+1,col)) // bottom-neighbor
-                uf.union(site[row][col], site[row+1][col]);
-            if (isOpen(row,col-1)) // left-neighbor
-                uf.union(site[row][col], site[row][col-1]);
-            if (isOpen(row,col+1)) // right-neighbor
-                uf.union(site[row][col], site[row][col+1]);    
+        // open site (row, col) if it is not open already, then let listeners know of what changed
+        else if (openSite(row, col)) {
+            fill(row, col);
+            notifyListeners();
         }
+    }
+
+    /**
+     * Open a batch of sites in the grid, such that the {@code i}-th site opened is ({@code rows[i]}, {@code cols[i]}). <br>
+     * All sites are connected to their neighboring open sites first, after which a single sweep across the newly opened sites identifies
+     * those that became full, and a single check identifies whether this grid now percolates. Registered listeners are notified
+     * accordingly, once the whole batch has been opened. Sites already open are left as is.
+     * @param rows {@code int[]} values representing the row indices of the sites to open
+     * @param cols {@code int[]} values representing the column indices of the sites to open
+     * @throws IllegalArgumentException when {@code rows} and {@code cols} differ in length
+     * @throws IndexOutOfBoundsException when any of the index points is outside the acceptable range of [0,n), in which case no site is opened
+     * @throws IllegalStateException when invoked from within a {@link Listener} callback
+     */
+    public void openAll(int[] rows, int[] cols) {
+
+        if (notifying)
+            throw new java.lang.IllegalStateException ("Sites must not be opened from within a listener callback");
+
+        else if (rows.length != cols.length)
+            throw new java.lang.IllegalArgumentException ("Row and column indices must be equal in number");
+
+        // invalid index points are unacceptable; validate all of them up-front to leave the grid untouched should any be invalid
+        for (int i = 0; i < rows.length; i++)
+            if (isInvalid(rows[i]) || isInvalid (cols[i]))
+                throw new java.lang.IndexOutOfBoundsException ("Input index point(s) must be within the acceptable range of [0,n)");
+
+        // open all sites, remembering which of them weren't open before
+        int[] opened = new int[rows.length];
+        int numOpened = 0;
+        for (int i = 0; i < rows.length; i++)
+            if (openSite(rows[i], cols[i]))
+                opened[numOpened++] = i;
+
+        // sweep across newly opened sites for any that became full; each site is filled at most once across the sweep
+        for (int i = 0; i < numOpened; i++)
+            fill(rows[opened[i]], cols[opened[i]]);
 
+        notifyListeners();
+    }
+
+    /**
+     * Open site ({@code row}, {@code col}) and connect it to neighboring open sites, and to the virtual top or bottom
+     * site should it be in the top or bottom row
+     * @return {@code boolean} value of {@code true} if the site was opened now; {@code false} if it was already open
+     */
+    private boolean openSite(int row, int col) {
+        if (site [row][col] == 1)
+            return false;
+
+        site [row][col] = 1;
         ++numOpenSites;
+
+        int ix = ufIndex(row, col);
+        if (row == 0)
+            uf.union(ix, virtualTop());
+        if (row == site.length - 1)
+            uf.union(ix, virtualBottom());
+        if (!isInvalid(row-1) && isOpen(row-1,col)) // top-neighbor
+            uf.union(ix, ufIndex(row-1, col));
+        if (!isInvalid(row+1) && isOpen(row+1,col)) // bottom-neighbor
+            uf.union(ix, ufIndex(row+1, col));
+        if (!isInvalid(col-1) && isOpen(row,col-1)) // left-neighbor
+            uf.union(ix, ufIndex(row, col-1));
+        if (!isInvalid(col+1) && isOpen(row,col+1)) // right-neighbor
+            uf.union(ix, ufIndex(row, col+1));
+        return true;
+    }
+
+    /**
+     * Should open site ({@code row}, {@code col}) now be full, i.e. it is in the top row or has a full neighbor, mark it and every open site
+     * reachable from it that isn't full yet as full, recording each in {@link #newlyFull}. Since a site is marked full only once, filling
+     * sites costs no more than the number of sites in the grid across all opens
+     */
+    private void fill(int row, int col) {
+        if (full [row][col] || !(row == 0 || isFullNeighbor(row-1, col) || isFullNeighbor(row+1, col)
+                || isFullNeighbor(row, col-1) || isFullNeighbor(row, col+1)))
+            return;
+
+        // breadth-first traversal across open sites, queued up in newlyFull itself rather than on the call stack to not overflow it on large grids
+        int n = site.length;
+        int head = numNewlyFull;
+        addIfFillable(row, col);
+        while (head < numNewlyFull) {
+            int ix = newlyFull [head++];
+            int r = ix / n, c = ix % n;
+            addIfFillable(r-1, c); // top-neighbor
+            addIfFillable(r+1, c); // bottom-neighbor
+            addIfFillable(r, c-1); // left-neighbor
+            addIfFillable(r, c+1); // right-neighbor
+        }
+    }
+
+    /**
+     * Should site ({@code row}, {@code col}) be open but not full yet, mark it full and add it to {@link #newlyFull} to visit its neighbors later
+     */
+    private void addIfFillable(int row, int col) {
+        if (isInvalid(row) || isInvalid(col) || !isOpen(row, col) || full [row][col])
+            return;
+        full [row][col] = true;
+        newlyFull [numNewlyFull++] = ufIndex(row, col);
+    }
+
+    private boolean isFullNeighbor(int row, int col) {
+        return !isInvalid(row) && !isInvalid(col) && full [row][col];
+    }
+
+    /**
+     * Notify listeners of sites which became full, and, the first time around only, of this grid percolating. Invoked once the grid is
+     * consistent again after an open or batch of opens
+     */
+    private void notifyListeners() {
+        boolean nowPercolated = !percolated && percolates();
+        if (nowPercolated)
+            percolated = true;
+
+        notifying = true;
+        try {
+            int n = site.length;
+            for (int i = 0; i < numNewlyFull; i++)
+                for (Listener listener : listeners)
+                    listener.siteFull(newlyFull[i] / n, newlyFull[i] % n);
+            if (nowPercolated)
+                for (Listener listener : listeners)
+                    listener.percolated();
+        }
+        finally {
+            numNewlyFull = 0;
+            notifying = false;
+        }
     }
 
     /**
@@ -117,7 +318,8 @@ public class Percolation {
     /**
      * Is the current site in the grid, full ? <br>
      * The current site is deemed to be full if it is open and it has a connection to another open site from the top row of its grid
-     * such that every site along this path is comprised of other open sites in this grid.
+     * such that every site along this path is comprised of other open sites in this grid. Full sites are tracked as sites are opened,
+     * so this is a single look-up.
      * @param row {@code int} value representing the row index of the current site in the grid
      * @param col {@code int} value representing the column index of the current site in the grid
      * @return {@code boolean} value of {@code true} if it is full; {@code false} if it isn't
@@ -131,13 +333,7 @@ public class Percolation {
             throw new java.lang.IndexOutOfBoundsException ("Input index point(s) must be within the acceptable range of [0,n)");
         
         // is site (row, col) full?
-        else if (isOpen(row, col)) {
-            for (int topRowColIx = 0; topRowColIx < site.length; topRowColIx ++)
-                if (isOpen(0, topRowColIx) && uf.connected(site[row][col], site[0][topRowColIx]))
-                    return true;
-        }
-        
-        return false;
+        return full [row][col];
     }
 
     /**
@@ -154,11 +350,8 @@ public class Percolation {
      * @return boolean {@code true} if it does; {@code false} if it doesn't.
      */
     public boolean percolates() {
-        // does the system percolate?
-        for (int bottomRowColIx = 0; bottomRowColIx < site.length; bottomRowColIx++)
-            if (isFull(site.length - 1, bottomRowColIx))
-                return true;
-        return false;
+        // does the system percolate? It does once the virtual top and bottom sites are connected through open sites
+        return uf.connected(virtualTop(), virtualBottom());
     }
 
     /**
@@ -29,14 +29,26 @@ public class PercolationStats {
             percolationThresholds = new double[trials];   
             for (int trialIx = 0; trialIx < trials; trialIx++) {
                 Percolation trial = new Percolation(n);
-                do {
-                    // identify site to open
-                    int siteOrder = trial.site.length;
-                    int gridIx = StdRandom.uniform(0, siteOrder);
-                    trial.open((gridIx/siteOrder)-1, (gridIx%siteOrder)-1);
-                } while (!trial.percolates());
+
+                // let the trial tell us when it percolates, rather than polling it after every site opened
+                final boolean[] percolated = { false };
+                trial.addListener(new Percolation.Listener() {
+                    @Override
+                    public void percolated() {
+                        percolated[0] = true;
+                    }
+                });
+
+                // open sites in random order, each at most once, until the trial percolates
+                int[] gridIxs = new int[n*n];
+                for (int gridIx = 0; gridIx < gridIxs.length; gridIx++)
+                    gridIxs[gridIx] = gridIx;
+                StdRandom.shuffle(gridIxs);
+                for (int i = 0; !percolated[0]; i++)
+                    trial.open(gridIxs[i]/n, gridIxs[i]%n);
+
                 // record percolation threshold of current trial
-                percolationThresholds [trialIx] = trial.numOpenSites / (trial.site.length^2);
+                percolationThresholds [trialIx] = (double) trial.numberOfOpenSites() / (n*n);
             }
         }
     }
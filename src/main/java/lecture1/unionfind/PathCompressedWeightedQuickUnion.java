@@ -36,7 +36,8 @@ public class PathCompressedWeightedQuickUnion {
      * @param N {@code int} number of elements whose connections to manage
      */
     public PathCompressedWeightedQuickUnion (int N) {
-        connections = treeSize = new int [N];
+        connections = new int [N];
+        treeSize = new int [N];
         for (int i = 0; i < N; ++i) {
             connections[i] = i;
             treeSize[i] = 1;
@@ -85,17 +86,23 @@ public class PathCompressedWeightedQuickUnion {
      * O(N) = log(N) <base 2><br>
      * @param x first {@code int} element
      * @param y second {@code int} element 
+     * @return {@code true} should two previously disconnected components have been connected; {@code false} should they already be connected.
+     * Saves callers from looking up both roots once more through {@link #connected(int, int)}
      */
-    public void union (int x, int y) {
-        if (connected (x,y))
-            return;
-        else if (treeSize[x] <= treeSize[y]) {
-            connections [root(x)] = root (y);
-            treeSize [y] += treeSize [x];
+    public boolean union (int x, int y) {
+        int rx = root (x);
+        int ry = root (y);
+        if (rx == ry)
+            return false;
+        // sizes are only maintained at the roots, so compare and link the roots rather than the input elements
+        else if (treeSize[rx] <= treeSize[ry]) {
+            connections [rx] = ry;
+            treeSize [ry] += treeSize [rx];
         }
         else {
-            connections [root(y)] = root(x);
-            treeSize [x] += treeSize [y];
+            connections [ry] = rx;
+            treeSize [rx] += treeSize [ry];
         }
+        return true;
     }
 }
\ No newline at end of file
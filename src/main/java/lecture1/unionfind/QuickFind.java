@@ -1,5 +1,9 @@
 package lecture1.unionfind;
 
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
 /**
  * Dynamic Connectivity (ex. Networks) - Week 1 of https://www.coursera.org/learn/introduction-to-algorithms/ <br>
  * 
@@ -9,6 +13,13 @@ package lecture1.unionfind;
  * 
  * DEFECT - Trees are flat and can be expensive to keep them flat; 'union' operation is quite expensive (N array accesses)
  * 
+ * For workloads where 'connected' checks vastly outnumber unions, the cost of 'union' is softened in two ways. Relabeling is split into
+ * contiguous ranges of the array across cores for large N. Unions may also be deferred, such that several pending unions are applied
+ * together in a single pass over the array.
+ * 
+ * 'connected' only ever reads the array, so concurrent 'connected' checks are safe as long as no other operation runs alongside them. Deferred
+ * unions are therefore not visible to 'connected' until they are applied, by 'applyDeferred' or by the next 'union'.
+ * 
  * @author Sudarshan Thitte
  */
 public class QuickFind {
@@ -18,6 +29,19 @@ public class QuickFind {
     // element 5 is part of connected component 10.
     private int [] connections;
     
+    // Arrays at least this large are relabeled in parallel; for smaller arrays, splitting across cores costs more than it saves
+    private static final int PARALLEL_THRESHOLD = 1 << 18;
+    
+    // Connected component identifiers of unions deferred, but not yet applied. The i-th pending union fuses component pendingFrom[i] into
+    // component pendingTo[i]. Identifiers are recorded at the time of deferral; they remain valid as nothing is relabeled until all are applied
+    private int [] pendingFrom = new int [16];
+    private int [] pendingTo = new int [16];
+    private int numPending;
+    
+    // Association of a connected component identifier to the identifier it is to be relabeled to, while applying pending unions. Kept as the
+    // identity outside of that, so that only identifiers involved in pending unions need to be reset afterwards
+    private int [] relabel;
+    
     /**
      * Initialize each element to belong to its own connected component <br>
      * O(N) = N <br>
@@ -25,12 +49,14 @@ public class QuickFind {
      */
     public QuickFind(int N) {
         connections = new int [N];
+        relabel = new int [N];
         for (int i = 0; i < N; ++i)
-            connections[i] = i;
+            connections[i] = relabel[i] = i;
     }
     
     /**
-     * Should two elements belong to the same connected component, then they are connected to each other <br>
+     * Should two elements belong to the same connected component, then they are connected to each other. Deferred unions not yet applied
+     * aren't taken into account <br>
      * O(N) = 1 <br>
      * @param x first {@code int} element
      * @param y second {@code int} element
@@ -43,19 +69,122 @@ public class QuickFind {
     /**
      * Connect two disconnected elements and their respective connected components by re-setting an element's and its connections to
      * the other element's connected component identifier. For instance, if x belongs to component 5 and y belongs to component 3, a call
-     * to union (x, y) must re-set x and all the other elements in its connected component to be a part of 3 <br>
+     * to union (x, y) must re-set x and all the other elements in its connected component to be a part of 3. Any deferred unions are applied first <br>
      * O(N) = N <br>
      * @param x first {@code int} element
      * @param y second {@code int} element 
      */
     public void union (int x, int y) {
+        applyDeferred();
         if (connected (x,y))
             return;
-        int cx = connections[x];
-        int cy = connections[y];
-        for (int i = 0; i < connections.length; ++i) {
-            if (connections[i] == cx)
-                connections[i] = cy;
+        final int cx = connections[x];
+        final int cy = connections[y];
+        forEachRange ((lo, hi) -> {
+            for (int i = lo; i < hi; ++i) {
+                if (connections[i] == cx)
+                    connections[i] = cy;
+            }
+        });
+    }
+    
+    /**
+     * Connect two elements and their respective connected components, same as {@link #union(int, int)}, but defer re-setting connected component
+     * identifiers until the next {@link #union(int, int)} or {@link #applyDeferred()}. All unions deferred in the meantime are then applied together
+     * in a single pass over the array. Until then, {@link #connected(int, int)} doesn't take this union into account <br>
+     * O(N) = 1 <br>
+     * @param x first {@code int} element
+     * @param y second {@code int} element 
+     */
+    public void deferUnion (int x, int y) {
+        if (connections[x] == connections[y])
+            return;
+        if (numPending == pendingFrom.length) {
+            pendingFrom = Arrays.copyOf(pendingFrom, numPending * 2);
+            pendingTo = Arrays.copyOf(pendingTo, numPending * 2);
+        }
+        pendingFrom[numPending] = connections[x];
+        pendingTo[numPending] = connections[y];
+        ++numPending;
+    }
+    
+    /**
+     * Apply all deferred unions in a single pass over the array. Pending unions are first resolved amongst the connected component identifiers
+     * involved, such that each identifier maps directly to its final identifier, after which every element is re-set to the final identifier of
+     * its connected component <br>
+     * O(N) = N + P x log(P), P = # of pending unions <br>
+     */
+    public void applyDeferred () {
+        if (numPending == 0)
+            return;
+        
+        // fuse identifiers in the same manner as PathCompressedWeightedQuickUnion does elements, since pending unions may chain (ex. 1 into 2,
+        // then 2 into 3)
+        for (int i = 0; i < numPending; ++i) {
+            int from = resolve (pendingFrom[i]);
+            int to = resolve (pendingTo[i]);
+            if (from != to)
+                relabel[from] = to;
+        }
+        // flatten, so that each identifier involved maps directly to its final identifier
+        for (int i = 0; i < numPending; ++i) {
+            relabel[pendingFrom[i]] = resolve (pendingFrom[i]);
+            relabel[pendingTo[i]] = resolve (pendingTo[i]);
         }
+        
+        forEachRange ((lo, hi) -> {
+            for (int i = lo; i < hi; ++i)
+                connections[i] = relabel[connections[i]];
+        });
+        
+        // reset identifiers involved back to the identity, ready for the next batch of pending unions
+        for (int i = 0; i < numPending; ++i) {
+            relabel[pendingFrom[i]] = pendingFrom[i];
+            relabel[pendingTo[i]] = pendingTo[i];
+        }
+        numPending = 0;
+    }
+    
+    /**
+     * Yield the identifier {@code c} is to be relabeled to, compressing the path traversed by hopping across grandparents as in
+     * {@link PathCompressedWeightedQuickUnion#root(int)}. Without it, long chains of pending unions would be walked end to end time and again <br>
+     * Only identifiers involved in pending unions are ever re-set, so resetting those after applying them restores the identity <br>
+     * O(N) = log(P) amortized <br>
+     */
+    private int resolve (int c) {
+        while (relabel[c] != c) {
+            relabel[c] = relabel[relabel[c]];
+            c = relabel[c];
+        }
+        return c;
+    }
+    
+    /**
+     * A pass over the range [lo, hi) of the array
+     */
+    private interface RangePass {
+        void apply (int lo, int hi);
+    }
+    
+    /**
+     * Run {@code pass} over the whole array; in one go for small arrays, or split into contiguous ranges across cores for large ones
+     */
+    private void forEachRange (RangePass pass) {
+        int N = connections.length;
+        if (N < PARALLEL_THRESHOLD) {
+            pass.apply(0, N);
+            return;
+        }
+        int chunks = ForkJoinPool.getCommonPoolParallelism() * 4;
+        // near the maximum array size, chunk bounds overflow an int; compute them as long values, clamped to N
+        int chunkSize = (int) (((long) N + chunks - 1) / chunks);
+        IntStream.range(0, chunks).parallel().forEach(c -> pass.apply(chunkBound (N, chunkSize, c), chunkBound (N, chunkSize, c + 1)));
+    }
+    
+    /**
+     * Start of the {@code c}-th chunk of size {@code chunkSize} in the array, or {@code N} should that chunk start beyond the array
+     */
+    private static int chunkBound (int N, int chunkSize, int c) {
+        return (int) Math.min(N, (long) c * chunkSize);
     }
 }
\ No newline at end of file
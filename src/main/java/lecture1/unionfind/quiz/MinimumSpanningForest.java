@@ -0,0 +1,297 @@
+package lecture1.unionfind.quiz;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+import lecture1.unionfind.PathCompressedWeightedQuickUnion;
+
+/**
+ * Minimum Spanning Forest <br>
+ * Given a social network containing n members and a log file containing m entries 'x,y,t' at which times pairs of members formed friendships,
+ * identify the "backbone" of the network, i.e. the minimum spanning forest of the interaction graph when the timestamp of each entry is taken
+ * to be the weight of its edge. Unlike {@link SocialNetworkConnectivity}, the log file need not be sorted by timestamp. <br>
+ *
+ * Kruskal's algorithm picks edges in ascending order of weight, skipping those whose members are already connected. The union-find, here
+ * {@link PathCompressedWeightedQuickUnion}, answers that connectivity question. Fully sorting all m edges up-front is however wasteful, since most
+ * of the heavier edges end up connecting members that are already connected by then. Filter-Kruskal therefore partitions the edges quicksort-style
+ * around a pivot weight, recurses on the lighter edges first, and only then filters out heavier edges which have since become redundant, before
+ * recursing on whatever heavier edges remain. Large partitions are split across cores, each core classifying and scattering its own chunk of edges.
+ * The filter step stays sequential since path compression in {@link PathCompressedWeightedQuickUnion#root(int)} writes into the union-find. <br>
+ *
+ * Edges selected into the forest are written out as soon as they are selected, in the same 'x,y,t' format and in ascending order of timestamp. <br>
+ * O(N) = m x log(m) in the worst case, though typically closer to m + n x log(n) x log(m/n) as heavier edges get filtered out early
+ *
+ * @author Sudarshan R Thitte
+ */
+public class MinimumSpanningForest {
+
+    // partitions no larger than this are sorted outright and fed into Kruskal's algorithm directly
+    private static final int SORT_THRESHOLD = 32;
+
+    // partitions at least as large as this are partitioned in parallel; smaller ones aren't worth the overhead of splitting them across cores
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    PathCompressedWeightedQuickUnion pcwqc;
+
+    // edges read in from the log file, held as parallel arrays to avoid an object per edge. The i-th edge connects members from[i] and to[i] at time weight[i]
+    int[] from;
+    int[] to;
+    long[] weight;
+    int numEdges;
+
+    // scratch space for parallel partitioning; allocated on first use
+    private int[] fromBuffer;
+    private int[] toBuffer;
+    private long[] weightBuffer;
+
+    // number of members, and number of edges selected into the forest so far. A forest can never hold more than N-1 edges
+    int numMembers;
+    int numSelected;
+
+    public MinimumSpanningForest (int N) {
+        pcwqc = new PathCompressedWeightedQuickUnion(N);
+        numMembers = N;
+        from = new int[16];
+        to = new int[16];
+        weight = new long[16];
+    }
+
+    /**
+     * Register an edge connecting member {@code x} with member {@code y} at time {@code t}
+     * @param x {@code int} value representing a member being connected to another member {@code y}
+     * @param y {@code int} value representing a member being connected to another member {@code x}
+     * @param t {@code long} value representing the time at which the connection was formed, used as the weight of this edge
+     */
+    public void addEdge (int x, int y, long t) {
+        if (numEdges == from.length) {
+            // Java arrays top out just short of 2^31 entries, which caps the number of edges held at once
+            int capacity = (int) Math.min((long) from.length * 2, Integer.MAX_VALUE - 8);
+            if (capacity == numEdges)
+                throw new java.lang.IllegalStateException ("Number of edges exceeds the capacity of a single edge array");
+            from = Arrays.copyOf(from, capacity);
+            to = Arrays.copyOf(to, capacity);
+            weight = Arrays.copyOf(weight, capacity);
+            fromBuffer = toBuffer = null;
+            weightBuffer = null;
+        }
+        from[numEdges] = x;
+        to[numEdges] = y;
+        weight[numEdges] = t;
+        ++numEdges;
+    }
+
+    /**
+     * Assume format of each entry in log file to be 'x,y,t' which indicates member x connected with member y at time 't', same as in
+     * {@link SocialNetworkConnectivity}. Each entry is registered as an edge as soon as it has been parsed
+     */
+    private void readEdges (String logFilePath) throws FileNotFoundException, IOException {
+
+        // Assuming each entry is on a new line in this file
+        BufferedReader reader = new BufferedReader (new FileReader (new File(logFilePath)));
+        String entry = null;
+        while ((entry = reader.readLine()) != null) {
+            String[] entries = entry.split(",");
+            addEdge (Integer.parseInt (entries[0]), Integer.parseInt (entries[1]), Long.parseLong (entries[2]));
+        }
+        reader.close();
+    }
+
+    /**
+     * Compute the minimum spanning forest across all edges registered thus far, writing out each selected edge as soon as it is selected <br>
+     * The registered edges are reordered (and heavier, redundant ones dropped) in the process, so this is to be invoked once all edges are in
+     * @param out {@link PrintWriter} to which selected edges are written, one 'x,y,t' entry per line
+     * @return {@code int} number of edges selected into the forest
+     */
+    public int computeForest (PrintWriter out) {
+        filterKruskal (0, numEdges, out);
+        out.flush();
+        return numSelected;
+    }
+
+    /**
+     * Filter-Kruskal across edges in the range [lo, hi). Small ranges are sorted and handed over to Kruskal's algorithm directly. Larger ranges
+     * are partitioned into edges lighter than, as heavy as, and heavier than a pivot weight. Lighter edges are processed first, followed by the
+     * ones as heavy as the pivot (their order amongst each other doesn't matter), after which heavier edges connecting already connected members
+     * are filtered out before the remaining heavier edges are processed
+     */
+    private void filterKruskal (int lo, int hi, PrintWriter out) {
+        // once the forest spans all members, no further edge can ever be selected
+        if (hi - lo <= 0 || numSelected == numMembers - 1)
+            return;
+        if (hi - lo <= SORT_THRESHOLD) {
+            insertionSort (lo, hi);
+            kruskal (lo, hi, out);
+            return;
+        }
+        long pivot = pivot (lo, hi);
+        long bounds = (hi - lo >= PARALLEL_THRESHOLD) ? parallelPartition (lo, hi, pivot) : partition (lo, hi, pivot);
+        int lt = (int) (bounds >>> 32);
+        int gt = (int) bounds;
+        filterKruskal (lo, lt, out);
+        kruskal (lt, gt, out);
+        filterKruskal (gt, filter (gt, hi), out);
+    }
+
+    /**
+     * Kruskal's algorithm across edges in the range [lo, hi), assumed to be in ascending order of weight already
+     */
+    private void kruskal (int lo, int hi, PrintWriter out) {
+        for (int i = lo; i < hi && numSelected < numMembers - 1; ++i) {
+            // union looks up both roots just once, and only links them should they differ
+            if (pcwqc.union(from[i], to[i])) {
+                ++numSelected;
+                out.println(from[i] + "," + to[i] + "," + weight[i]);
+            }
+        }
+    }
+
+    /**
+     * Drop edges in the range [lo, hi) which connect members already connected, compacting the remaining edges towards {@code lo}
+     * @return {@code int} end of the compacted range
+     */
+    private int filter (int lo, int hi) {
+        int end = lo;
+        for (int i = lo; i < hi; ++i) {
+            if (!pcwqc.connected(from[i], to[i])) {
+                from[end] = from[i];
+                to[end] = to[i];
+                weight[end] = weight[i];
+                ++end;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Median of three weights sampled at random from the range [lo, hi)
+     */
+    private long pivot (int lo, int hi) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long a = weight[random.nextInt(lo, hi)];
+        long b = weight[random.nextInt(lo, hi)];
+        long c = weight[random.nextInt(lo, hi)];
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+
+    /**
+     * Three-way partition of edges in the range [lo, hi) around {@code pivot}, such that [lo, lt) are lighter, [lt, gt) are as heavy as and
+     * [gt, hi) are heavier than {@code pivot}
+     * @return {@code long} value holding {@code lt} in its upper and {@code gt} in its lower 32 bits
+     */
+    private long partition (int lo, int hi, long pivot) {
+        int lt = lo, i = lo, gt = hi;
+        while (i < gt) {
+            if (weight[i] < pivot)
+                swap (lt++, i++);
+            else if (weight[i] > pivot)
+                swap (i, --gt);
+            else
+                ++i;
+        }
+        return ((long) lt << 32) | gt;
+    }
+
+    /**
+     * Same as {@link #partition(int, int, long)}, but split across cores. The range is cut into chunks, and each chunk's lighter, as heavy and heavier
+     * edges are counted in parallel. Those counts tell each chunk where in the scratch space its edges of each kind go, so that all chunks can then scatter
+     * their edges in parallel without coordinating with each other, before the partitioned range is copied back
+     */
+    private long parallelPartition (int lo, int hi, long pivot) {
+        if (fromBuffer == null) {
+            fromBuffer = new int[numEdges];
+            toBuffer = new int[numEdges];
+            weightBuffer = new long[numEdges];
+        }
+        int chunks = ForkJoinPool.getCommonPoolParallelism() * 4;
+        // near the capacity of an edge array, chunk bounds overflow an int; compute them as long values, clamped to hi
+        int chunkSize = (int) (((long) hi - lo + chunks - 1) / chunks);
+        int[][] counts = new int[chunks][3];
+
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int end = chunkBound (lo, hi, chunkSize, c + 1);
+            for (int i = chunkBound (lo, hi, chunkSize, c); i < end; ++i)
+                ++counts[c][Long.compare(weight[i], pivot) + 1];
+        });
+
+        // turn counts into offsets: all lighter edges first, then all as heavy, then all heavier, each kind ordered by chunk
+        int[] lighter = new int[3];
+        for (int c = 0; c < chunks; ++c)
+            for (int k = 0; k < 3; ++k)
+                lighter[k] += counts[c][k];
+        int[] next = { lo, lo + lighter[0], lo + lighter[0] + lighter[1] };
+        for (int c = 0; c < chunks; ++c) {
+            for (int k = 0; k < 3; ++k) {
+                int count = counts[c][k];
+                counts[c][k] = next[k];
+                next[k] += count;
+            }
+        }
+
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int[] offset = counts[c];
+            int end = chunkBound (lo, hi, chunkSize, c + 1);
+            for (int i = chunkBound (lo, hi, chunkSize, c); i < end; ++i) {
+                int j = offset[Long.compare(weight[i], pivot) + 1]++;
+                fromBuffer[j] = from[i];
+                toBuffer[j] = to[i];
+                weightBuffer[j] = weight[i];
+            }
+        });
+
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int start = chunkBound (lo, hi, chunkSize, c);
+            int length = chunkBound (lo, hi, chunkSize, c + 1) - start;
+            if (length > 0) {
+                System.arraycopy(fromBuffer, start, from, start, length);
+                System.arraycopy(toBuffer, start, to, start, length);
+                System.arraycopy(weightBuffer, start, weight, start, length);
+            }
+        });
+
+        int lt = lo + lighter[0];
+        int gt = lt + lighter[1];
+        return ((long) lt << 32) | gt;
+    }
+
+    /**
+     * Start of the {@code c}-th chunk of size {@code chunkSize} in the range [lo, hi), or {@code hi} should that chunk start beyond the range
+     */
+    private static int chunkBound (int lo, int hi, int chunkSize, int c) {
+        return (int) Math.min(hi, lo + (long) c * chunkSize);
+    }
+
+    private void insertionSort (int lo, int hi) {
+        for (int i = lo + 1; i < hi; ++i)
+            for (int j = i; j > lo && weight[j] < weight[j-1]; --j)
+                swap (j, j-1);
+    }
+
+    private void swap (int i, int j) {
+        int x = from[i]; from[i] = from[j]; from[j] = x;
+        int y = to[i]; to[i] = to[j]; to[j] = y;
+        long t = weight[i]; weight[i] = weight[j]; weight[j] = t;
+    }
+
+    public static void main (String args[]) throws Exception {
+        if (args.length < 2 || args.length > 3) {
+            System.out.println("ERROR - Provide 2 or 3 input arguments. First is integer number of members being connected. Second is String path to log file. "
+                    + "Optional third is String path to the file into which forest edges are written; standard output otherwise");
+            return;
+        }
+        MinimumSpanningForest msf = new MinimumSpanningForest(Integer.parseInt(args[0]));
+        msf.readEdges(args[1]);
+        PrintWriter out = (args.length == 3) ? new PrintWriter (new File(args[2])) : new PrintWriter (System.out);
+        int selected = msf.computeForest(out);
+        if (args.length == 3)
+            out.close();
+        System.err.println("Number of edges in minimum spanning forest : " + selected);
+    }
+}
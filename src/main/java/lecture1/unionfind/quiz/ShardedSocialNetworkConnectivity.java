@@ -0,0 +1,259 @@
+package lecture1.unionfind.quiz;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import lecture1.unionfind.PathCompressedWeightedQuickUnion;
+
+/**
+ * Sharded Social Network Connectivity <br>
+ * Given a social network containing n members and a log file containing m entries 'x,y,t' at which times pairs of members formed friendships,
+ * identify the connected components of the network by replaying the log across several worker processes on the same machine. <br>
+ *
+ * The log file is cut into as many byte ranges as there are workers, each entry belonging to the range its first byte falls in. Each worker is a
+ * separate JVM replaying only its own range into a partial {@link PathCompressedWeightedQuickUnion}, after which it exports a summary of that partial
+ * forest over its standard output: an (element, root) pair for every member that isn't the root of its own tree. Members never touched by a worker's
+ * range are roots of their own trees, so the summary is no larger than the number of members that range touched. <br>
+ *
+ * Since friendship is an equivalence relation, the union of (element, root) across all summaries describes the same partition as the union of all
+ * entries in the log. The coordinator merges summaries into a {@link PathCompressedWeightedQuickUnion} of its own, counting components down from n as
+ * previously disjoint components are fused. Replaying the log, which dominates the running time, scales with the number of workers, while merging
+ * costs no more than (number of workers) x n x log*(n)
+ *
+ * @author Sudarshan R Thitte
+ */
+public class ShardedSocialNetworkConnectivity {
+
+    // marks the start and end of a summary, so that anything else written to a worker's standard output (ex. JVM logging) is detected rather
+    // than merged as pairs of members
+    static final int SUMMARY_HEADER = 0x55465348;
+    static final int SUMMARY_TRAILER = 0x55465354;
+
+    // how long to wait for a worker to exit on its own once its summary has been abandoned, before destroying it
+    private static final long WORKER_EXIT_TIMEOUT_SECONDS = 10;
+
+    PathCompressedWeightedQuickUnion pcwqc;
+
+    int numMembers;
+
+    // initially, each member is in a connected component of its own
+    int numComponents;
+
+    public ShardedSocialNetworkConnectivity (int N) {
+        pcwqc = new PathCompressedWeightedQuickUnion(N);
+        numMembers = numComponents = N;
+    }
+
+    /**
+     * Merge the summary of a partial forest into the global partition. A summary is {@link #SUMMARY_HEADER}, an {@code int} count of pairs,
+     * as many (element, root) pairs of {@code int} values, and {@link #SUMMARY_TRAILER}
+     * @throws IOException when the summary ends early, is not framed by its header and trailer, or holds members outside the range [0,n)
+     */
+    void merge (DataInputStream summary) throws IOException {
+        if (summary.readInt() != SUMMARY_HEADER)
+            throw new IOException ("Summary doesn't start with its header; has something else been written to the worker's standard output?");
+        int numPairs = summary.readInt();
+        for (int i = 0; i < numPairs; ++i) {
+            int x = summary.readInt();
+            int y = summary.readInt();
+            if (x < 0 || x >= numMembers || y < 0 || y >= numMembers)
+                throw new IOException ("Summary holds pair (" + x + "," + y + ") outside the range of members [0," + numMembers + ")");
+            if (pcwqc.union(x, y))
+                --numComponents;
+        }
+        if (summary.readInt() != SUMMARY_TRAILER)
+            throw new IOException ("Summary doesn't end with its trailer; has something else been written to the worker's standard output?");
+    }
+
+    /**
+     * Launch {@code numWorkers} worker processes, each replaying its own byte range of the log file, and merge their summaries as they come in.
+     * All workers replay their ranges concurrently; a worker done before the coordinator gets to it simply waits on its pipe. Should any worker
+     * fail, all other workers are destroyed and the failed worker's exit status is reported
+     * @throws IllegalArgumentException when {@code numWorkers} is a non-positive value
+     * @throws IOException when a worker fails, or its summary can't be merged
+     */
+    void connectAll (String logFilePath, int numWorkers) throws IOException, InterruptedException {
+        if (numWorkers <= 0)
+            throw new java.lang.IllegalArgumentException ("Number of workers must be a non-zero positive value");
+        long length = new File(logFilePath).length();
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+
+        List<Process> workers = new ArrayList<Process>();
+        for (int w = 0; w < numWorkers; ++w) {
+            ProcessBuilder builder = new ProcessBuilder (java, "-cp", System.getProperty("java.class.path"), ShardedSocialNetworkConnectivity.class.getName(),
+                    "worker", Integer.toString(numMembers), logFilePath, Long.toString(length * w / numWorkers), Long.toString(length * (w + 1) / numWorkers));
+            builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+            workers.add(builder.start());
+        }
+
+        for (int w = 0; w < numWorkers; ++w) {
+            Process worker = workers.get(w);
+            DataInputStream summary = new DataInputStream (new BufferedInputStream (worker.getInputStream(), 1 << 16));
+            try {
+                merge (summary);
+            }
+            catch (IOException e) {
+                // a worker that died mid-way leaves a truncated summary; its exit status says more than the merge failure does. A worker still
+                // alive may be blocked writing to its pipe, so close that first, and destroy the worker should it not exit shortly after
+                destroyAllBut (workers, w);
+                summary.close();
+                if (!worker.waitFor(WORKER_EXIT_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    worker.destroyForcibly().waitFor();
+                    throw new IOException ("Worker " + w + " was destroyed as its summary couldn't be merged", e);
+                }
+                throw new IOException ("Worker " + w + " exited with status " + worker.exitValue() + " before its summary could be merged", e);
+            }
+            summary.close();
+            if (worker.waitFor() != 0) {
+                destroyAllBut (workers, w);
+                throw new IOException ("Worker " + w + " exited with status " + worker.exitValue());
+            }
+        }
+    }
+
+    private static void destroyAllBut (List<Process> workers, int w) {
+        for (int v = 0; v < workers.size(); ++v)
+            if (v != w)
+                workers.get(v).destroy();
+    }
+
+    /**
+     * Replay entries of the log file whose first byte falls within [start, end) into a partial forest, then write out its summary.
+     * Entries are parsed straight off the bytes of the log file, rather than through {@link String#split(String)}, to keep replay cheap.
+     * Same as in {@link SocialNetworkConnectivity}, entries must be of the form 'x,y,t' with x and y members in the range [0,n), and t
+     * a timestamp; a line end of either '\n' or '\r\n' follows each. Blank lines are skipped
+     * @throws IOException when an entry is malformed, or refers to members outside the range [0,n)
+     */
+    private static void replayShard (int N, String logFilePath, long start, long end, DataOutputStream out) throws IOException {
+        PathCompressedWeightedQuickUnion shard = new PathCompressedWeightedQuickUnion(N);
+
+        InputStream in = new BufferedInputStream (new FileInputStream (new File(logFilePath)), 1 << 16);
+        long position = 0;
+        if (start > 0) {
+            // the entry straddling 'start', if any, belongs to the previous range; skip up to and including its line end
+            position = start - 1;
+            skipFully (in, position);
+            int b;
+            while ((b = in.read()) != -1) {
+                ++position;
+                if (b == '\n')
+                    break;
+            }
+        }
+
+        // each iteration consumes one line, 'x,y,t' followed by its line end; t is validated, but of no interest otherwise
+        int b = 0;
+        while (position < end && b != -1) {
+            long lineStart = position;
+            long x = 0, y = 0;
+            int field = 0, numDigits = 0, numBytes = 0;
+            boolean carriageReturn = false;
+            while ((b = in.read()) != -1 && b != '\n') {
+                ++position;
+                ++numBytes;
+                if (carriageReturn)
+                    throw malformed (logFilePath, lineStart, "'\\r' must be followed by a line end");
+                else if (b == '\r')
+                    carriageReturn = true;
+                else if (b == ',') {
+                    if (numDigits == 0 || field == 2)
+                        throw malformed (logFilePath, lineStart, "expected 'x,y,t'");
+                    ++field;
+                    numDigits = 0;
+                }
+                else if (b >= '0' && b <= '9') {
+                    ++numDigits;
+                    if (field < 2) {
+                        // bound-check as digits come in, which also keeps the value from overflowing
+                        if (field == 0)
+                            x = x * 10 + (b - '0');
+                        else
+                            y = y * 10 + (b - '0');
+                        if (x >= N || y >= N)
+                            throw malformed (logFilePath, lineStart, "member must be in the range [0," + N + ")");
+                    }
+                }
+                else
+                    throw malformed (logFilePath, lineStart, "unexpected character '" + (char) b + "'");
+            }
+            if (b == '\n')
+                ++position;
+
+            // skip blank lines
+            if (numBytes == 0 || (numBytes == 1 && carriageReturn))
+                continue;
+            if (field != 2 || numDigits == 0)
+                throw malformed (logFilePath, lineStart, "expected 'x,y,t'");
+            shard.union((int) x, (int) y);
+        }
+        in.close();
+
+        // summary of the partial forest: every member that isn't its own root, paired with its root
+        int numPairs = 0;
+        for (int i = 0; i < N; ++i)
+            if (shard.root(i) != i)
+                ++numPairs;
+        out.writeInt(SUMMARY_HEADER);
+        out.writeInt(numPairs);
+        for (int i = 0; i < N; ++i) {
+            int root = shard.root(i);
+            if (root != i) {
+                out.writeInt(i);
+                out.writeInt(root);
+            }
+        }
+        out.writeInt(SUMMARY_TRAILER);
+        out.flush();
+    }
+
+    private static IOException malformed (String logFilePath, long lineStart, String reason) {
+        return new IOException ("Malformed entry at byte " + lineStart + " of " + logFilePath + " : " + reason);
+    }
+
+    private static void skipFully (InputStream in, long n) throws IOException {
+        while (n > 0) {
+            long skipped = in.skip(n);
+            if (skipped <= 0)
+                return;
+            n -= skipped;
+        }
+    }
+
+    public static void main (String args[]) throws Exception {
+        if (args.length == 5 && args[0].equals("worker")) {
+            // standard output is reserved for the summary; send anything else printed through System.out to standard error instead
+            DataOutputStream summary = new DataOutputStream (new BufferedOutputStream (System.out, 1 << 16));
+            System.setOut(System.err);
+            try {
+                replayShard (Integer.parseInt(args[1]), args[2], Long.parseLong(args[3]), Long.parseLong(args[4]), summary);
+            }
+            catch (IOException e) {
+                // standard output carries the summary; errors go to standard error, which the coordinator shares
+                System.err.println("ERROR - " + e.getMessage());
+                System.exit(1);
+            }
+            return;
+        }
+        if (args.length != 3) {
+            System.out.println("ERROR - Provide 3 input arguments. First is integer number of members being connected. Second is String path to log file. "
+                    + "Third is integer number of worker processes to replay the log file across");
+            return;
+        }
+        if (Integer.parseInt(args[2]) <= 0) {
+            System.out.println("ERROR - Number of worker processes must be a non-zero positive value");
+            return;
+        }
+        ShardedSocialNetworkConnectivity s = new ShardedSocialNetworkConnectivity(Integer.parseInt(args[0]));
+        s.connectAll(args[1], Integer.parseInt(args[2]));
+        System.out.println("Number of connected components : " + s.numComponents);
+    }
+}
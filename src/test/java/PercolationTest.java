@@ -0,0 +1,159 @@
+import java.util.Random;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Unit test for {@link Percolation}, checked against a flood fill from the top row
+ */
+public class PercolationTest
+        extends TestCase {
+
+    public PercolationTest(String testName) {
+        super(testName);
+    }
+
+    /**
+     * @return the suite of tests being tested
+     */
+    public static Test suite() {
+        return new TestSuite(PercolationTest.class);
+    }
+
+    /**
+     * Listener counting how many times each site was reported full, and how many times percolation was reported
+     */
+    private static class CountingListener implements Percolation.Listener {
+        int[][] siteFullCounts;
+        int percolatedCount;
+
+        CountingListener(int n) {
+            siteFullCounts = new int[n][n];
+        }
+
+        @Override
+        public void percolated() {
+            ++percolatedCount;
+        }
+
+        @Override
+        public void siteFull(int row, int col) {
+            ++siteFullCounts[row][col];
+        }
+    }
+
+    public void testOpenMatchesFloodFill() {
+        int n = 20;
+        Random random = new Random(11);
+        Percolation grid = new Percolation(n);
+        CountingListener listener = new CountingListener(n);
+        grid.addListener(listener);
+        boolean[][] open = new boolean[n][n];
+        for (int i = 0; i < n * n; i++) {
+            int row = random.nextInt(n), col = random.nextInt(n);
+            grid.open(row, col);
+            open[row][col] = true;
+            assertMatchesFloodFill(grid, listener, open);
+        }
+    }
+
+    public void testOpenAllMatchesFloodFill() {
+        int n = 30;
+        Random random = new Random(13);
+        Percolation grid = new Percolation(n);
+        CountingListener listener = new CountingListener(n);
+        grid.addListener(listener);
+        boolean[][] open = new boolean[n][n];
+        for (int batch = 0; batch < 40; batch++) {
+            int[] rows = new int[25], cols = new int[25];
+            for (int i = 0; i < rows.length; i++) {
+                rows[i] = random.nextInt(n);
+                cols[i] = random.nextInt(n);
+                open[rows[i]][cols[i]] = true;
+            }
+            grid.openAll(rows, cols);
+            assertMatchesFloodFill(grid, listener, open);
+        }
+    }
+
+    public void testOpenAllRejectsInvalidBatchWithoutOpeningAnySite() {
+        Percolation grid = new Percolation(3);
+        try {
+            grid.openAll(new int[] { 0, 3 }, new int[] { 0, 0 });
+            fail("Expected IndexOutOfBoundsException");
+        }
+        catch (IndexOutOfBoundsException e) {
+            assertEquals(0, grid.numberOfOpenSites());
+        }
+    }
+
+    /**
+     * Opening a site from within a callback is rejected, and leaves the grid and remaining callbacks unaffected
+     */
+    public void testOpenFromListenerIsRejected() {
+        int n = 5;
+        final Percolation grid = new Percolation(n);
+        final boolean[] rejected = { false };
+        CountingListener listener = new CountingListener(n) {
+            @Override
+            public void siteFull(int row, int col) {
+                super.siteFull(row, col);
+                if (row == 1 && col == 1) {
+                    try {
+                        grid.open(0, 4);
+                    }
+                    catch (IllegalStateException e) {
+                        rejected[0] = true;
+                    }
+                }
+            }
+        };
+        grid.addListener(listener);
+        boolean[][] open = new boolean[n][n];
+        int[] rows = { 1, 2, 3, 4, 3, 1, 0 };
+        int[] cols = { 1, 1, 1, 1, 0, 0, 0 };
+        for (int i = 0; i < rows.length; i++)
+            open[rows[i]][cols[i]] = true;
+        grid.openAll(rows, cols);
+
+        assertTrue(rejected[0]);
+        assertFalse(grid.isOpen(0, 4));
+        assertMatchesFloodFill(grid, listener, open);
+    }
+
+    private static void assertMatchesFloodFill(Percolation grid, CountingListener listener, boolean[][] open) {
+        int n = open.length;
+        boolean[][] full = new boolean[n][n];
+        for (int col = 0; col < n; col++)
+            flood(open, full, 0, col);
+
+        boolean percolates = false;
+        for (int col = 0; col < n; col++)
+            percolates |= full[n-1][col];
+
+        int numOpen = 0;
+        for (int row = 0; row < n; row++) {
+            for (int col = 0; col < n; col++) {
+                if (open[row][col])
+                    ++numOpen;
+                assertEquals("isOpen(" + row + "," + col + ")", open[row][col], grid.isOpen(row, col));
+                assertEquals("isFull(" + row + "," + col + ")", full[row][col], grid.isFull(row, col));
+                assertEquals("siteFull(" + row + "," + col + ") count", full[row][col] ? 1 : 0, listener.siteFullCounts[row][col]);
+            }
+        }
+        assertEquals(numOpen, grid.numberOfOpenSites());
+        assertEquals("percolates()", percolates, grid.percolates());
+        assertEquals("percolated() count", percolates ? 1 : 0, listener.percolatedCount);
+    }
+
+    private static void flood(boolean[][] open, boolean[][] full, int row, int col) {
+        if (row < 0 || row >= open.length || col < 0 || col >= open.length || !open[row][col] || full[row][col])
+            return;
+        full[row][col] = true;
+        flood(open, full, row-1, col);
+        flood(open, full, row+1, col);
+        flood(open, full, row, col-1);
+        flood(open, full, row, col+1);
+    }
+}
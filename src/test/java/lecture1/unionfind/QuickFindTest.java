@@ -0,0 +1,88 @@
+package lecture1.unionfind;
+
+import java.util.Random;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Unit test for {@link QuickFind}, checking deferred unions against eager ones
+ */
+public class QuickFindTest
+        extends TestCase {
+
+    public QuickFindTest(String testName) {
+        super(testName);
+    }
+
+    /**
+     * @return the suite of tests being tested
+     */
+    public static Test suite() {
+        return new TestSuite(QuickFindTest.class);
+    }
+
+    public void testDeferredUnionsMatchEagerUnions() {
+        assertDeferredUnionsMatchEagerUnions(2000, 23);
+    }
+
+    /**
+     * Large enough for the array to be relabeled in parallel
+     */
+    public void testDeferredUnionsMatchEagerUnionsInParallel() {
+        assertDeferredUnionsMatchEagerUnions(300000, 31);
+    }
+
+    public void testDeferredUnionsAreNotVisibleUntilApplied() {
+        QuickFind qf = new QuickFind(10);
+        qf.deferUnion(1, 2);
+        qf.deferUnion(2, 3);
+        assertFalse(qf.connected(1, 3));
+        qf.applyDeferred();
+        assertTrue(qf.connected(1, 3));
+        assertFalse(qf.connected(1, 4));
+
+        qf.deferUnion(3, 4);
+        qf.union(5, 6);
+        assertTrue("union applies deferred unions first", qf.connected(1, 4));
+    }
+
+    /**
+     * Each pending union chains onto the previous one, such that resolving identifiers without compressing paths would take P x P steps
+     */
+    public void testLongChainOfDeferredUnions() {
+        int N = 200000;
+        QuickFind qf = new QuickFind(N);
+        for (int i = 0; i + 1 < N; ++i)
+            qf.deferUnion(i, i + 1);
+        qf.applyDeferred();
+        for (int i = 0; i < N; i += 997)
+            assertTrue(qf.connected(0, i));
+    }
+
+    private void assertDeferredUnionsMatchEagerUnions(int N, long seed) {
+        Random random = new Random(seed);
+        QuickFind eager = new QuickFind(N);
+        QuickFind deferred = new QuickFind(N);
+        for (int batch = 0; batch < 20; ++batch) {
+            int batchSize = random.nextInt(200);
+            for (int i = 0; i < batchSize; ++i) {
+                int x = random.nextInt(N), y = random.nextInt(N);
+                eager.union(x, y);
+                // some unions chain onto the previous ones, not just pairs picked at random
+                deferred.deferUnion(x, y);
+                if (random.nextBoolean()) {
+                    int z = random.nextInt(N);
+                    eager.union(y, z);
+                    deferred.deferUnion(y, z);
+                }
+            }
+            deferred.applyDeferred();
+            for (int i = 0; i < 2000; ++i) {
+                int x = random.nextInt(N), y = random.nextInt(N);
+                assertEquals(eager.connected(x, y), deferred.connected(x, y));
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package lecture1.unionfind.quiz;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Unit test for {@link MinimumSpanningForest}, checked against Kruskal's algorithm over fully sorted edges
+ */
+public class MinimumSpanningForestTest
+        extends TestCase {
+
+    public MinimumSpanningForestTest(String testName) {
+        super(testName);
+    }
+
+    /**
+     * @return the suite of tests being tested
+     */
+    public static Test suite() {
+        return new TestSuite(MinimumSpanningForestTest.class);
+    }
+
+    /**
+     * Enough edges for the top-level partitions to be partitioned in parallel, with few distinct weights to exercise ties
+     */
+    public void testForestMatchesSortedKruskal() {
+        assertForestMatchesSortedKruskal(20000, 200000, 1000, 26);
+    }
+
+    /**
+     * Fewer edges than members, such that the outcome is a forest rather than a tree
+     */
+    public void testSparseForestMatchesSortedKruskal() {
+        assertForestMatchesSortedKruskal(50000, 20000, Integer.MAX_VALUE, 29);
+    }
+
+    private void assertForestMatchesSortedKruskal(int n, int m, int maxWeight, long seed) {
+        Random random = new Random(seed);
+        final int[][] edges = new int[m][];
+        final long[] weights = new long[m];
+        MinimumSpanningForest msf = new MinimumSpanningForest(n);
+        for (int i = 0; i < m; i++) {
+            edges[i] = new int[] { random.nextInt(n), random.nextInt(n) };
+            weights[i] = random.nextInt(maxWeight);
+            msf.addEdge(edges[i][0], edges[i][1], weights[i]);
+        }
+
+        StringWriter written = new StringWriter();
+        int selected = msf.computeForest(new PrintWriter(written));
+        long totalWeight = 0;
+        long previousWeight = Long.MIN_VALUE;
+        String[] lines = written.toString().split("\n");
+        for (String line : lines) {
+            long weight = Long.parseLong(line.trim().split(",")[2]);
+            assertTrue("edges must be written in ascending order of weight", weight >= previousWeight);
+            previousWeight = weight;
+            totalWeight += weight;
+        }
+        assertEquals(selected, lines.length);
+
+        // reference: sort all edges, then apply Kruskal's algorithm over a plain quick-union
+        Integer[] order = new Integer[m];
+        for (int i = 0; i < m; i++)
+            order[i] = i;
+        Arrays.sort(order, new Comparator<Integer>() {
+            public int compare(Integer a, Integer b) {
+                return Long.compare(weights[a], weights[b]);
+            }
+        });
+        int[] parent = new int[n];
+        for (int i = 0; i < n; i++)
+            parent[i] = i;
+        int expectedSelected = 0;
+        long expectedWeight = 0;
+        for (int i : order) {
+            int x = root(parent, edges[i][0]);
+            int y = root(parent, edges[i][1]);
+            if (x != y) {
+                parent[x] = y;
+                ++expectedSelected;
+                expectedWeight += weights[i];
+            }
+        }
+        assertEquals(expectedSelected, selected);
+        assertEquals(expectedWeight, totalWeight);
+    }
+
+    private static int root(int[] parent, int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+}
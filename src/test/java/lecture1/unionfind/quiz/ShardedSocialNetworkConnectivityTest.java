@@ -0,0 +1,161 @@
+package lecture1.unionfind.quiz;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Random;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+import lecture1.unionfind.PathCompressedWeightedQuickUnion;
+
+/**
+ * Unit test for {@link ShardedSocialNetworkConnectivity}, checked against replaying the whole log in a single process
+ */
+public class ShardedSocialNetworkConnectivityTest
+        extends TestCase {
+
+    public ShardedSocialNetworkConnectivityTest(String testName) {
+        super(testName);
+    }
+
+    /**
+     * @return the suite of tests being tested
+     */
+    public static Test suite() {
+        return new TestSuite(ShardedSocialNetworkConnectivityTest.class);
+    }
+
+    public void testComponentsMatchSingleProcessReplay() throws Exception {
+        assertComponentsMatchSingleProcessReplay("\n");
+    }
+
+    public void testComponentsMatchSingleProcessReplayWithCarriageReturns() throws Exception {
+        assertComponentsMatchSingleProcessReplay("\r\n");
+    }
+
+    public void testMalformedEntriesFailTheWorker() throws Exception {
+        String[] malformed = { "2,x3,4", "-1,2,4", "1,,3", "1,2", "1,2,3,4", "99999999999,2,3", "10,2,3", "1,2,3\r5" };
+        for (String entry : malformed) {
+            File log = writeLog("0,1,1\n" + entry + "\n3,4,5\n");
+            try {
+                new ShardedSocialNetworkConnectivity(10).connectAll(log.getPath(), 2);
+                fail("Expected IOException for entry '" + entry + "'");
+            }
+            catch (IOException e) {
+                assertTrue(e.getMessage(), e.getMessage().contains("exited with status"));
+            }
+            finally {
+                log.delete();
+            }
+        }
+    }
+
+    public void testNonPositiveNumberOfWorkersIsRejected() throws Exception {
+        File log = writeLog("0,1,1\n");
+        try {
+            new ShardedSocialNetworkConnectivity(10).connectAll(log.getPath(), 0);
+            fail("Expected IllegalArgumentException");
+        }
+        catch (IllegalArgumentException e) {
+            // expected
+        }
+        finally {
+            log.delete();
+        }
+    }
+
+    public void testMergeAcceptsFramedSummary() throws Exception {
+        ShardedSocialNetworkConnectivity sharded = new ShardedSocialNetworkConnectivity(10);
+        sharded.merge(summary(new byte[0], 2, new byte[0]));
+        assertEquals(8, sharded.numComponents);
+        assertTrue(sharded.pcwqc.connected(1, 3));
+    }
+
+    /**
+     * Anything written to a worker's standard output ahead of, or amidst, its summary is detected rather than merged as pairs of members
+     */
+    public void testMergeRejectsStrayOutput() throws Exception {
+        byte[] stray = "[gc] Using G1\n".getBytes("US-ASCII");
+        try {
+            new ShardedSocialNetworkConnectivity(10).merge(summary(stray, 2, new byte[0]));
+            fail("Expected IOException for output ahead of the summary");
+        }
+        catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("header"));
+        }
+        try {
+            new ShardedSocialNetworkConnectivity(10).merge(summary(new byte[0], 2, new byte[] { 0, 0, 0, 1, 0, 0, 0, 2 }));
+            fail("Expected IOException for output amidst the summary");
+        }
+        catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("trailer"));
+        }
+    }
+
+    /**
+     * Summary holding pairs (1,3) and (2,3), with {@code before} written ahead of it and {@code between} written after its pairs
+     */
+    private static DataInputStream summary(byte[] before, int numPairs, byte[] between) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.write(before);
+        out.writeInt(ShardedSocialNetworkConnectivity.SUMMARY_HEADER);
+        out.writeInt(numPairs);
+        out.writeInt(1);
+        out.writeInt(3);
+        out.writeInt(2);
+        out.writeInt(3);
+        out.write(between);
+        out.writeInt(ShardedSocialNetworkConnectivity.SUMMARY_TRAILER);
+        out.flush();
+        return new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+
+    private void assertComponentsMatchSingleProcessReplay(String lineEnd) throws Exception {
+        int n = 5000;
+        Random random = new Random(17);
+        PathCompressedWeightedQuickUnion reference = new PathCompressedWeightedQuickUnion(n);
+        int expectedComponents = n;
+        StringBuilder entries = new StringBuilder();
+        for (int t = 0; t < 3000; t++) {
+            int x = random.nextInt(n), y = random.nextInt(n);
+            entries.append(x).append(',').append(y).append(',').append(t).append(lineEnd);
+            if (t % 500 == 0)
+                entries.append(lineEnd);
+            if (!reference.connected(x, y)) {
+                reference.union(x, y);
+                --expectedComponents;
+            }
+        }
+        File log = writeLog(entries.toString());
+        try {
+            for (int numWorkers : new int[] { 1, 2, 3, 7 }) {
+                ShardedSocialNetworkConnectivity sharded = new ShardedSocialNetworkConnectivity(n);
+                sharded.connectAll(log.getPath(), numWorkers);
+                assertEquals("components with " + numWorkers + " workers", expectedComponents, sharded.numComponents);
+                for (int i = 0; i < 1000; i++) {
+                    int x = random.nextInt(n), y = random.nextInt(n);
+                    assertEquals(reference.connected(x, y), sharded.pcwqc.connected(x, y));
+                }
+            }
+        }
+        finally {
+            log.delete();
+        }
+    }
+
+    private static File writeLog(String entries) throws IOException {
+        File log = File.createTempFile("friendships", ".log");
+        Writer writer = new FileWriter(log);
+        writer.write(entries);
+        writer.close();
+        return log;
+    }
+}